@@ -0,0 +1,147 @@
+package sailpoint.rdk.bundle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A memory-mapped archive of rules written by {@link RuleBundleWriter}.
+ *
+ * Opening a bundle only reads the header table of rule names, metadata and source offsets.
+ * Rules are keyed by the file they were bundled from; a library spanning several tenants may
+ * hold more than one rule of the same name.
+ * A rule's source is decoded from the mapping the first time it is asked for, so loading a
+ * large library costs one mapping instead of one XML parse per rule file.
+ *
+ * Layout: magic, version, rule count and the offset of the source section, followed by one
+ * header entry per rule and then the UTF-8 sources back to back.
+ */
+public class RuleBundle implements Closeable {
+
+    static final int MAGIC = 0x52444B42; // "RDKB"
+    static final int VERSION = 1;
+    static final int PREFIX_LENGTH = 4 + 4 + 4 + 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long dataStart;
+
+    private final Map<String, RuleInfo> files = new LinkedHashMap<>();
+    private final Map<String, List<RuleInfo>> names = new HashMap<>();
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+    private RuleBundle(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (buffer.remaining() < PREFIX_LENGTH || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a rule bundle");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported rule bundle version " + version);
+        }
+
+        int count = buffer.getInt();
+        this.dataStart = buffer.getLong();
+
+        for (int r = 0; r < count; r++) {
+            String name = readString(buffer);
+            String type = readString(buffer);
+            String returnType = readString(buffer);
+            String fileName = readString(buffer);
+
+            int argumentCount = buffer.getInt();
+            List<String> arguments = new ArrayList<>(argumentCount);
+            for (int a = 0; a < argumentCount; a++) {
+                arguments.add(readString(buffer));
+            }
+
+            long offset = buffer.getLong();
+            int length = buffer.getInt();
+
+            if (dataStart + offset + length > channel.size()) {
+                throw new IOException("Rule bundle is truncated at rule " + name);
+            }
+
+            RuleInfo info = new RuleInfo(name, type, returnType, arguments, fileName, offset, length);
+            files.put(fileName, info);
+            names.computeIfAbsent(name, n -> new ArrayList<>()).add(info);
+        }
+    }
+
+    public static RuleBundle open(Path archive) throws IOException {
+        FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ);
+        try {
+            return new RuleBundle(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Collection<RuleInfo> getRules() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    /**
+     * Metadata of every rule with the given name, in file name order, or an empty list if the
+     * bundle has no such rule.
+     */
+    public List<RuleInfo> getRule(String name) {
+        List<RuleInfo> matches = names.get(name);
+        return matches == null ? Collections.emptyList() : Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * Metadata of the rule bundled from the given file, relative to the rules directory, or null.
+     */
+    public RuleInfo getRuleByFileName(String fileName) {
+        return files.get(fileName);
+    }
+
+    /**
+     * The Source of the rule bundled from the given file, or null if the bundle has no such file.
+     */
+    public String getSourceByFileName(String fileName) {
+        RuleInfo info = files.get(fileName);
+        return info == null ? null : getSource(info);
+    }
+
+    public String getSource(RuleInfo info) {
+        return sources.computeIfAbsent(info.getFileName(), fileName -> {
+            ByteBuffer slice = buffer.duplicate();
+            slice.position((int) (dataStart + info.offset));
+            slice.limit((int) (dataStart + info.offset + info.length));
+            return StandardCharsets.UTF_8.decode(slice).toString();
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,290 @@
+package sailpoint.rdk.bundle;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import sailpoint.rdk.utils.RuleXmlUtils;
+
+/**
+ * Builds a {@link RuleBundle} archive from a directory of rule XML files.
+ *
+ * The files are parsed and validated in parallel. A rule without a name or Source, or with an
+ * unnamed signature argument is left out of the bundle. A missing type or Signature is only
+ * reported, since generic rules have neither. Rules are identified by their file name relative
+ * to the rules directory, so rules of the same name from different tenants are all kept.
+ */
+public class RuleBundleWriter {
+
+    /**
+     * Swallows parser diagnostics; fatal errors still surface as the SAXException recorded as a
+     * problem, without the default handler also printing them to stderr.
+     */
+    private static final ErrorHandler SILENT = new ErrorHandler() {
+        @Override
+        public void warning(SAXParseException e) {
+        }
+
+        @Override
+        public void error(SAXParseException e) {
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXParseException {
+            throw e;
+        }
+    };
+
+    private final List<String> problems = new ArrayList<>();
+
+    /**
+     * Bundles every {@code .xml} file below the rules directory into the archive.
+     *
+     * @return the number of rules written
+     */
+    public int write(Path rulesDirectory, Path archive) throws IOException {
+        problems.clear();
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(rulesDirectory)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".xml"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        // Builders are not thread safe; parser threads borrow one from this pool, which is
+        // dropped with the call
+        Queue<DocumentBuilder> builders = new ConcurrentLinkedQueue<>();
+
+        List<ParsedRule> parsed = files.parallelStream()
+                .map(file -> {
+                    DocumentBuilder builder = builders.poll();
+                    try {
+                        if (builder == null) {
+                            builder = newDocumentBuilder();
+                        }
+                        return parse(builder, file, rulesDirectory.relativize(file).toString());
+                    } finally {
+                        if (builder != null) {
+                            builder.reset();
+                            builder.setErrorHandler(SILENT);
+                            builders.offer(builder);
+                        }
+                    }
+                })
+                .collect(Collectors.toList());
+
+        List<ParsedRule> valid = new ArrayList<>();
+
+        for (ParsedRule rule : parsed) {
+            problems.addAll(rule.problems);
+
+            if (rule.valid) {
+                valid.add(rule);
+            }
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        long offset = 0;
+
+        for (ParsedRule rule : valid) {
+            writeString(out, rule.name);
+            writeString(out, rule.type);
+            writeString(out, rule.returnType);
+            writeString(out, rule.fileName);
+            out.writeInt(rule.arguments.size());
+            for (String argument : rule.arguments) {
+                writeString(out, argument);
+            }
+            out.writeLong(offset);
+            out.writeInt(rule.source.length);
+
+            offset += rule.source.length;
+        }
+        out.flush();
+
+        Path temp = Files.createTempFile(archive.toAbsolutePath().getParent(), archive.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                file.writeInt(RuleBundle.MAGIC);
+                file.writeInt(RuleBundle.VERSION);
+                file.writeInt(valid.size());
+                file.writeLong(RuleBundle.PREFIX_LENGTH + header.size());
+                header.writeTo(file);
+
+                for (ParsedRule rule : valid) {
+                    file.write(rule.source);
+                }
+            }
+            Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return valid.size();
+    }
+
+    /**
+     * Validation problems found by the last {@link #write(Path, Path)}, one line per problem,
+     * prefixed with the file name.
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            DocumentBuilder builder = RuleXmlUtils.newDocumentBuilder();
+            builder.setErrorHandler(SILENT);
+            return builder;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ParsedRule parse(DocumentBuilder builder, Path file, String fileName) {
+        ParsedRule rule = new ParsedRule(fileName);
+
+        Document doc;
+        try {
+            doc = builder.parse(file.toFile());
+        } catch (SAXException | IOException e) {
+            rule.error("not well-formed XML: " + e.getMessage());
+            return rule;
+        }
+
+        Element root = doc.getDocumentElement();
+        root.normalize();
+
+        if (!"Rule".equals(root.getTagName())) {
+            rule.error("root element is " + root.getTagName() + ", expected Rule");
+            return rule;
+        }
+
+        rule.name = emptyToNull(root.getAttribute("name"));
+        if (rule.name == null) {
+            rule.error("Rule has no name");
+        }
+
+        rule.type = emptyToNull(root.getAttribute("type"));
+        if (rule.type == null) {
+            rule.warn("Rule has no type");
+        }
+
+        NodeList signatures = root.getElementsByTagName("Signature");
+        if (signatures.getLength() == 0) {
+            rule.warn("Rule has no Signature");
+        } else {
+            Element signature = (Element) signatures.item(0);
+            rule.returnType = emptyToNull(signature.getAttribute("returnType"));
+
+            // Only the Inputs, the Returns element lists its result as an Argument too
+            NodeList inputs = signature.getElementsByTagName("Inputs");
+            NodeList arguments = inputs.getLength() == 0 ? null : ((Element) inputs.item(0)).getElementsByTagName("Argument");
+            for (int a = 0; arguments != null && a < arguments.getLength(); a++) {
+                String argument = emptyToNull(((Element) arguments.item(a)).getAttribute("name"));
+                if (argument == null) {
+                    rule.error("Signature argument " + (a + 1) + " has no name");
+                } else {
+                    rule.arguments.add(argument);
+                }
+            }
+        }
+
+        // Same as RuleXmlUtils, the last Source element wins
+        NodeList sources = root.getElementsByTagName("Source");
+        String source = null;
+        for (int s = 0; s < sources.getLength(); s++) {
+            source = sources.item(s).getTextContent();
+        }
+        if (source == null || source.trim().isEmpty()) {
+            rule.error("Rule has no Source");
+        } else {
+            rule.source = source.getBytes(StandardCharsets.UTF_8);
+        }
+
+        return rule;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+
+    /**
+     * Bundles a rules directory from the command line:
+     * {@code RuleBundleWriter <rules directory> <archive>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: RuleBundleWriter <rules directory> <archive>");
+            System.exit(1);
+        }
+
+        RuleBundleWriter writer = new RuleBundleWriter();
+        int count = writer.write(Paths.get(args[0]), Paths.get(args[1]));
+
+        for (String problem : writer.getProblems()) {
+            System.err.println(problem);
+        }
+        System.out.println("Bundled " + count + " rules into " + args[1]);
+    }
+
+    private static class ParsedRule {
+        final String fileName;
+        final List<String> arguments = new ArrayList<>();
+        final List<String> problems = new ArrayList<>();
+
+        String name;
+        String type;
+        String returnType;
+        byte[] source;
+        boolean valid = true;
+
+        ParsedRule(String fileName) {
+            this.fileName = fileName;
+        }
+
+        void error(String message) {
+            valid = false;
+            problems.add(fileName + ": " + message + ", skipped");
+        }
+
+        void warn(String message) {
+            problems.add(fileName + ": " + message);
+        }
+    }
+}
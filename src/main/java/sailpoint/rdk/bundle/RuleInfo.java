@@ -0,0 +1,67 @@
+package sailpoint.rdk.bundle;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metadata of a rule stored in a {@link RuleBundle}, taken from the {@code Rule} element and
+ * its {@code Signature}.
+ */
+public class RuleInfo {
+
+    private final String name;
+    private final String type;
+    private final String returnType;
+    private final List<String> arguments;
+    private final String fileName;
+
+    final long offset;
+    final int length;
+
+    RuleInfo(String name, String type, String returnType, List<String> arguments, String fileName, long offset, int length) {
+        this.name = name;
+        this.type = type;
+        this.returnType = returnType;
+        this.arguments = Collections.unmodifiableList(arguments);
+        this.fileName = fileName;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The rule type, e.g. {@code BuildMap}, or null for generic rules.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The signature's return type, or null when the rule has no signature.
+     */
+    public String getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * Names of the signature's input arguments.
+     */
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    /**
+     * The file the rule was bundled from, relative to the rules directory.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public String toString() {
+        return name + (type == null ? "" : " (" + type + ")") + " from " + fileName;
+    }
+}
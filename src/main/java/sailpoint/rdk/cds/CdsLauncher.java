@@ -0,0 +1,281 @@
+package sailpoint.rdk.cds;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Starts the rule harness from an AppCDS archive so short runs skip most of the class loading
+ * for BeanShell, log4j, Gson and the {@code sailpoint.*} classes.
+ *
+ * <pre>
+ * CdsLauncher train   [main class] [args...]   record a class list and dump the archive
+ * CdsLauncher run     [main class] [args...]   launch from the archive, training first if needed
+ * CdsLauncher measure [main class] [args...]   compare startup without and with the archive
+ * </pre>
+ *
+ * The main class defaults to {@link RuleHarness}. Files are written to {@code target/cds}, or
+ * the directory in the {@code rdk.cds.dir} system property. CDS only archives classes from jar
+ * files, so class directories on the classpath are packaged into jars there first.
+ *
+ * Uses a static archive ({@code -XX:DumpLoadedClassList} and {@code -Xshare:dump}), which works
+ * from JDK 11 on. The archive is only valid for the JVM and classpath it was dumped with; the
+ * launcher retrains when a classpath jar is newer than the archive, and the JVM silently falls
+ * back to normal class loading on any other mismatch.
+ */
+public class CdsLauncher {
+
+    private static final String CLASS_LIST = "classes.lst";
+    private static final String ARCHIVE = "rdk.jsa";
+
+    private final Path directory;
+    private final String path;
+
+    private List<String> classpath;
+
+    public CdsLauncher(Path directory) {
+        this(directory, System.getProperty("java.class.path"));
+    }
+
+    /**
+     * @param path the classpath to launch with, in {@code java.class.path} form
+     */
+    public CdsLauncher(Path directory, String path) {
+        this.directory = directory;
+        this.path = path;
+    }
+
+    /**
+     * The launch classpath with class directories replaced by jars, packaging them on first use.
+     */
+    public synchronized List<String> getClasspath() throws IOException {
+        if (classpath == null) {
+            Files.createDirectories(directory);
+            classpath = jarClasspath(path);
+        }
+        return classpath;
+    }
+
+    public Path getClassList() {
+        return directory.resolve(CLASS_LIST);
+    }
+
+    public Path getArchive() {
+        return directory.resolve(ARCHIVE);
+    }
+
+    /**
+     * Runs the main class once to record the classes it loads, then dumps them into the archive.
+     */
+    public void train(String mainClass, List<String> args) throws IOException, InterruptedException {
+        Files.deleteIfExists(getClassList());
+        Files.deleteIfExists(getArchive());
+
+        List<String> record = java("-Xshare:off", "-XX:DumpLoadedClassList=" + getClassList());
+        record.add(mainClass);
+        record.addAll(args);
+        execute(record);
+
+        execute(java("-Xshare:dump", "-Xlog:cds=error", "-XX:SharedClassListFile=" + getClassList(), "-XX:SharedArchiveFile=" + getArchive()));
+
+        System.err.println("Archived " + Files.readAllLines(getClassList()).size() + " classes into " + getArchive());
+    }
+
+    /**
+     * True when the archive exists and no jar on the classpath changed after it was dumped.
+     */
+    public boolean isArchiveFresh() throws IOException {
+        File archive = getArchive().toFile();
+        if (!archive.isFile()) {
+            return false;
+        }
+        for (String entry : getClasspath()) {
+            if (new File(entry).lastModified() > archive.lastModified()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Launches the main class, echoing its output, and returns the milliseconds from process start
+     * until it printed {@link RuleHarness#FIRST_RESULT}, or -1 if it never did.
+     */
+    public long launch(String mainClass, List<String> args, boolean useArchive, OutputStream echo)
+            throws IOException, InterruptedException {
+        List<String> command = useArchive
+                ? java("-Xshare:auto", "-XX:SharedArchiveFile=" + getArchive())
+                : java();
+        command.add(mainClass);
+        command.addAll(args);
+
+        long start = System.nanoTime();
+        long firstResult = -1;
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstResult < 0 && line.contains(RuleHarness.FIRST_RESULT)) {
+                    firstResult = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                if (echo != null) {
+                    echo.write((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IOException(mainClass + " exited with " + exit);
+        }
+        return firstResult;
+    }
+
+    /**
+     * Launches the main class the given number of times without and with the archive and prints
+     * the median time to the first rule result of each.
+     */
+    public void measure(String mainClass, List<String> args, int runs) throws IOException, InterruptedException {
+        if (runs < 1) {
+            throw new IllegalArgumentException("Runs must be at least 1");
+        }
+        if (!isArchiveFresh()) {
+            train(mainClass, args);
+        }
+
+        long cold = median(mainClass, args, false, runs);
+        long archived = median(mainClass, args, true, runs);
+
+        System.out.println(String.format("Time to first rule result, median of %d runs: %d ms without archive, %d ms with archive (%d%% faster)",
+                runs, cold, archived, cold <= 0 ? 0 : (cold - archived) * 100 / cold));
+    }
+
+    private long median(String mainClass, List<String> args, boolean useArchive, int runs) throws IOException, InterruptedException {
+        List<Long> times = new ArrayList<>();
+        for (int r = 0; r < runs; r++) {
+            times.add(launch(mainClass, args, useArchive, null));
+        }
+        return median(times);
+    }
+
+    /**
+     * The middle value of the given times, the upper one of the two middle values for an even
+     * count.
+     */
+    public static long median(List<Long> times) {
+        if (times.isEmpty()) {
+            throw new IllegalArgumentException("No times to take the median of");
+        }
+        List<Long> sorted = new ArrayList<>(times);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private List<String> java(String... options) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(options));
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, getClasspath()));
+        return command;
+    }
+
+    private static void execute(List<String> command) throws IOException, InterruptedException {
+        int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exit != 0) {
+            throw new IOException("Command failed with exit code " + exit + ": " + String.join(" ", command));
+        }
+    }
+
+    /**
+     * Replaces the class directories on the classpath with jars, repackaging a directory only
+     * when something in it changed, so an unchanged build keeps its archive valid.
+     */
+    private List<String> jarClasspath(String path) throws IOException {
+        List<String> entries = new ArrayList<>();
+
+        for (String entry : path.split(File.pathSeparator)) {
+            File file = new File(entry);
+            if (file.isDirectory()) {
+                Path jar = directory.resolve(file.getAbsolutePath().replaceAll("[^A-Za-z0-9]+", "_") + ".jar");
+                if (!jar.toFile().isFile() || lastModified(file.toPath()) > jar.toFile().lastModified()) {
+                    jarDirectory(file.toPath(), jar);
+                }
+                entries.add(jar.toAbsolutePath().toString());
+            } else if (file.isFile()) {
+                entries.add(file.getAbsolutePath());
+            }
+        }
+
+        return entries;
+    }
+
+    private static long lastModified(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.mapToLong(file -> file.toFile().lastModified()).max().orElse(0);
+        }
+    }
+
+    private static void jarDirectory(Path directory, Path jar) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path file : files) {
+                out.putNextEntry(new JarEntry(directory.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: CdsLauncher <train|run|measure> [main class] [args...]");
+            System.exit(1);
+        }
+
+        String mainClass = args.length > 1 ? args[1] : RuleHarness.class.getName();
+        List<String> mainArgs = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : Collections.emptyList();
+
+        CdsLauncher launcher = new CdsLauncher(Paths.get(System.getProperty("rdk.cds.dir", "target/cds")));
+
+        switch (args[0]) {
+            case "train":
+                launcher.train(mainClass, mainArgs);
+                break;
+            case "run":
+                if (!launcher.isArchiveFresh()) {
+                    System.err.println("No current CDS archive, training first");
+                    launcher.train(mainClass, mainArgs);
+                }
+                long firstResult = launcher.launch(mainClass, mainArgs, true, System.out);
+                System.err.println("First rule result after " + firstResult + " ms");
+                break;
+            case "measure":
+                launcher.measure(mainClass, mainArgs, Integer.getInteger("rdk.cds.runs", 5));
+                break;
+            default:
+                System.err.println("Unknown command " + args[0]);
+                System.exit(1);
+        }
+    }
+}
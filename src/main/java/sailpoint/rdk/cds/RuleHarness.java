@@ -0,0 +1,174 @@
+package sailpoint.rdk.cds;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.rdk.bundle.RuleBundle;
+import sailpoint.rdk.bundle.RuleInfo;
+import sailpoint.rdk.logging.LoggingMode;
+import sailpoint.rdk.logging.LoggingScope;
+import sailpoint.rdk.utils.RuleXmlUtils;
+
+/**
+ * Evaluates every rule in a rules directory or {@link RuleBundle} once, with the inputs from
+ * {@link TrainingInputs} and {@code log} bound.
+ *
+ * This is the training workload for {@link CdsLauncher} and the program it times. It prints
+ * {@link #FIRST_RESULT} as soon as the first rule has returned without an error.
+ */
+public class RuleHarness {
+
+    public static final String FIRST_RESULT = "RDK first rule result";
+
+    /**
+     * System property naming a class list (one class per line, {@code /} separated as written by
+     * {@code -XX:DumpLoadedClassList}) to load on a background thread at startup. Useful where
+     * the CDS archive cannot be used, e.g. on a different JVM.
+     */
+    public static final String PRELOAD_PROPERTY = "rdk.preload";
+
+    /**
+     * System property selecting the {@link LoggingMode} bound to the rules' {@code log}, LOG4J
+     * by default.
+     */
+    public static final String LOGGING_PROPERTY = "rdk.logging";
+
+    private static final String DEFAULT_RULES = "src/main/resources/rules";
+
+    private static final Logger log = LogManager.getLogger(RuleHarness.class);
+
+    public static int run(Path rules, PrintStream out) throws IOException {
+        return run(rules, out, LoggingMode.LOG4J);
+    }
+
+    /**
+     * @param logging what to bind to each rule's {@code log}
+     * @return the number of rules that evaluated without an error
+     */
+    public static int run(Path rules, PrintStream out, LoggingMode logging) throws IOException {
+        try (LoggingScope scope = logging.open(RuleHarness.class)) {
+            return run(rules, out, scope.getLogger());
+        }
+    }
+
+    private static int run(Path rules, PrintStream out, Logger ruleLog) throws IOException {
+        Progress progress = new Progress(out, ruleLog);
+
+        // Rules are read one at a time, right before they are evaluated, so the first result is
+        // not held back by loading the rest of the library
+        if (Files.isDirectory(rules)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(rules)) {
+                files = walk.filter(file -> file.getFileName().toString().endsWith(".xml"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                progress.evaluate(RuleXmlUtils.readRuleSourceFromFilePath(file.toString()));
+            }
+        } else {
+            try (RuleBundle bundle = RuleBundle.open(rules)) {
+                for (RuleInfo info : bundle.getRules()) {
+                    progress.evaluate(bundle.getSource(info));
+                }
+            }
+        }
+
+        return progress.evaluated;
+    }
+
+    /**
+     * Reads a class list as written by {@code -XX:DumpLoadedClassList} and returns the binary
+     * class names, skipping comments and CDS directives ({@code @lambda-proxy} etc.).
+     */
+    public static List<String> readClassList(Path classList) throws IOException {
+        List<String> classes = new ArrayList<>();
+
+        for (String line : Files.readAllLines(classList, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("@")) {
+                continue;
+            }
+            classes.add(line.split(" ")[0].replace('/', '.'));
+        }
+
+        return classes;
+    }
+
+    static void preload(Path classList) {
+        Thread preloader = new Thread(() -> {
+            try {
+                for (String name : readClassList(classList)) {
+                    try {
+                        Class.forName(name, false, RuleHarness.class.getClassLoader());
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        // JDK internal and generated classes cannot be loaded by name
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "rdk-preload");
+        preloader.setDaemon(true);
+        preloader.start();
+    }
+
+    private static class Progress {
+        final PrintStream out;
+        final Logger ruleLog;
+        int evaluated;
+
+        Progress(PrintStream out, Logger ruleLog) {
+            this.out = out;
+            this.ruleLog = ruleLog;
+        }
+
+        void evaluate(String source) {
+            if (source == null) {
+                return;
+            }
+
+            try {
+                Interpreter i = new Interpreter();
+                TrainingInputs.bind(i);
+                i.set("log", ruleLog);
+                i.eval(source);
+            } catch (EvalError | RuntimeException e) {
+                log.warn("Rule failed: " + e.getMessage());
+                return;
+            }
+
+            if (evaluated++ == 0) {
+                out.println(FIRST_RESULT);
+                out.flush();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String preload = System.getProperty(PRELOAD_PROPERTY);
+        if (preload != null && new File(preload).isFile()) {
+            preload(Paths.get(preload));
+        }
+
+        Path rules = Paths.get(args.length > 0 ? args[0] : DEFAULT_RULES);
+        LoggingMode logging = LoggingMode.valueOf(System.getProperty(LOGGING_PROPERTY, LoggingMode.LOG4J.name()));
+        int evaluated = run(rules, System.out, logging);
+
+        System.out.println("Evaluated " + evaluated + " rules from " + rules);
+    }
+}
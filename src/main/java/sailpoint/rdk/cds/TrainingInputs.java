@@ -0,0 +1,145 @@
+package sailpoint.rdk.cds;
+
+import java.lang.reflect.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.object.Application;
+import sailpoint.object.Identity;
+import sailpoint.object.Link;
+import sailpoint.object.ProvisioningPlan;
+import sailpoint.object.ProvisioningPlan.AccountRequest;
+import sailpoint.server.IdnRuleUtil;
+
+/**
+ * One identity's worth of rule inputs, the same values the rule tests set up with mocks, so that
+ * {@link RuleHarness} runs each example rule to completion and the training run loads the
+ * classes a real evaluation touches (Gson, commons-lang, {@code sailpoint.object.*},
+ * {@code sailpoint.connector.*}).
+ *
+ * Every variable is bound for every rule; a rule simply ignores the ones it does not use. The
+ * objects are plain subclasses and a proxy rather than Mockito mocks, since Mockito is only on
+ * the test classpath.
+ */
+public class TrainingInputs {
+
+    public static void bind(Interpreter i) throws EvalError {
+        String startDate = date(-7);
+        String endDate = date(7);
+
+        Map<String, Object> identityAttributes = new HashMap<>();
+        identityAttributes.put("startDate", startDate);
+        identityAttributes.put("endDate", endDate);
+        identityAttributes.put("otherName", "");
+
+        Identity identity = new Identity() {
+            @Override
+            public String getFirstname() {
+                return "Kiefer";
+            }
+
+            @Override
+            public String getLastname() {
+                return "Sutherland";
+            }
+
+            @Override
+            public Object getAttribute(String name) {
+                return identityAttributes.get(name);
+            }
+
+            @Override
+            public String getStringAttribute(String name) {
+                return (String) identityAttributes.get(name);
+            }
+        };
+
+        Application application = new Application();
+        application.setName("Active Directory [source]");
+
+        Link link = new Link() {
+            @Override
+            public Object getAttribute(String name) {
+                return "manager.email".equals(name) ? "jane.doe@sailpoint.com" : null;
+            }
+        };
+
+        AccountRequest accountRequest = new AccountRequest();
+        accountRequest.setOp(ProvisioningPlan.ObjectOperation.Disable);
+        List<AccountRequest> accountRequests = new ArrayList<>();
+        accountRequests.add(accountRequest);
+        ProvisioningPlan plan = new ProvisioningPlan();
+        plan.setAccountRequests(accountRequests);
+
+        // AttributeGenerator, IdentityAttribute, ManagerCorrelation, BeforeProvisioning
+        i.set("idn", idn());
+        i.set("identity", identity);
+        i.set("application", application);
+        i.set("link", link);
+        i.set("plan", plan);
+        i.set("oldValue", null);
+
+        // BuildMap
+        i.set("cols", Arrays.asList("access", "permission", "email"));
+        i.set("record", Arrays.asList("admin", "write", "john.doe@sailpoint.com"));
+
+        // Name Normalizer
+        i.set("input", "CORNELIUS AUGUSTINE MCGLENNON IV");
+        i.set("patterns", "\\b(Mc|Mac)");
+        i.set("delimiters", new char[] {'-', ' ', '\''});
+        i.set("replacements", "{ \"\\\\b(?:Iv)\\\\b\": \"IV\", \"\\\\b(?:Von)\\\\b\": \"von\" }");
+
+        // FlattenMultiValuedAttribute
+        i.set("applicationName", "Active Directory");
+        i.set("nativeIdentity", "CN=Kiefer Sutherland");
+        i.set("attribute", "memberOf");
+        i.set("delimiter", ",");
+        i.set("debugError", false);
+    }
+
+    /**
+     * An {@link IdnRuleUtil} that reports no existing accounts and returns a multi-valued
+     * attribute once the application name carries the " [source]" suffix. The {@code Object}
+     * methods keep identity semantics, so the proxy is safe to use as a map key.
+     */
+    private static IdnRuleUtil idn() {
+        return (IdnRuleUtil) Proxy.newProxyInstance(IdnRuleUtil.class.getClassLoader(), new Class<?>[] {IdnRuleUtil.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return "TrainingIdnRuleUtil";
+                        }
+                    }
+                    if ("getRawAccountAttribute".equals(method.getName()) && args.length == 3
+                            && String.valueOf(args[0]).endsWith(" [source]")) {
+                        return Arrays.asList("Domain Users", "Developers");
+                    }
+                    if (method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    return null;
+                });
+    }
+
+    private static String date(int numberOfDaysToAdjust) {
+        Calendar c = Calendar.getInstance();
+        c.add(Calendar.DAY_OF_MONTH, numberOfDaysToAdjust);
+
+        return new SimpleDateFormat("yyyy-MM-dd").format(c.getTime());
+    }
+}
@@ -0,0 +1,192 @@
+package sailpoint.rdk.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.Priority;
+
+/**
+ * A logger that records how many calls a rule makes and how many bytes of messages it formats,
+ * optionally passing every call on to a real logger.
+ *
+ * All levels report as enabled so that guarded calls are counted as well; the volume is what
+ * the rule would produce with its most verbose logging turned on.
+ */
+public class CountingLogger extends Logger {
+
+    private final Logger delegate;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Map<String, LongAdder> callsByLevel = new ConcurrentHashMap<>();
+
+    public CountingLogger(String name) {
+        this(name, null);
+    }
+
+    /**
+     * @param delegate logger that receives every call after it is counted, or null to count only
+     */
+    public CountingLogger(String name, Logger delegate) {
+        super(name);
+        this.delegate = delegate;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * UTF-8 size of all messages passed in, excluding layout and stack traces.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Calls per level name, e.g. {@code DEBUG -> 200}.
+     */
+    public Map<String, Long> getCallsByLevel() {
+        Map<String, Long> result = new TreeMap<>();
+        callsByLevel.forEach((level, count) -> result.put(level, count.sum()));
+        return result;
+    }
+
+    public void reset() {
+        calls.reset();
+        bytes.reset();
+        callsByLevel.clear();
+    }
+
+    private void count(Priority level, Object message) {
+        calls.increment();
+        callsByLevel.computeIfAbsent(level.toString(), l -> new LongAdder()).increment();
+
+        if (message != null) {
+            bytes.add(String.valueOf(message).getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isFatalEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabledFor(Priority level) {
+        return true;
+    }
+
+    @Override
+    public void trace(Object message) {
+        log(Level.TRACE, message, null);
+    }
+
+    @Override
+    public void trace(Object message, Throwable t) {
+        log(Level.TRACE, message, t);
+    }
+
+    @Override
+    public void debug(Object message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    @Override
+    public void debug(Object message, Throwable t) {
+        log(Level.DEBUG, message, t);
+    }
+
+    @Override
+    public void info(Object message) {
+        log(Level.INFO, message, null);
+    }
+
+    @Override
+    public void info(Object message, Throwable t) {
+        log(Level.INFO, message, t);
+    }
+
+    @Override
+    public void warn(Object message) {
+        log(Level.WARN, message, null);
+    }
+
+    @Override
+    public void warn(Object message, Throwable t) {
+        log(Level.WARN, message, t);
+    }
+
+    @Override
+    public void error(Object message) {
+        log(Level.ERROR, message, null);
+    }
+
+    @Override
+    public void error(Object message, Throwable t) {
+        log(Level.ERROR, message, t);
+    }
+
+    @Override
+    public void fatal(Object message) {
+        log(Level.FATAL, message, null);
+    }
+
+    @Override
+    public void fatal(Object message, Throwable t) {
+        log(Level.FATAL, message, t);
+    }
+
+    @Override
+    public void log(Priority priority, Object message) {
+        log(priority, message, null);
+    }
+
+    @Override
+    public void log(Priority priority, Object message, Throwable t) {
+        count(priority, message);
+
+        if (delegate != null) {
+            delegate.log(priority, message, t);
+        }
+    }
+
+    @Override
+    public void log(String callerFqcn, Priority level, Object message, Throwable t) {
+        count(level, message);
+
+        if (delegate != null) {
+            delegate.log(callerFqcn, level, message, t);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package sailpoint.rdk.logging;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+
+/**
+ * The loggers a rule can be evaluated with, i.e. what is bound to the rule's {@code log}
+ * variable.
+ */
+public enum LoggingMode {
+
+    /**
+     * The log4j logger configured by the classpath, {@code log4j2.properties} in the tests.
+     */
+    LOG4J,
+
+    /**
+     * Discards all logging, see {@link NoOpLogger}.
+     */
+    NOOP,
+
+    /**
+     * Counts calls and bytes without writing anything, see {@link CountingLogger}.
+     */
+    COUNTING,
+
+    /**
+     * The log4j logger while the {@code log4j2-async.properties} configuration is active, which
+     * writes through an asynchronous appender. Switching configuration affects the whole JVM, so
+     * this mode is only available through {@link #open(String)}; closing the scope restores the
+     * previous configuration.
+     */
+    ASYNC;
+
+    static final String ASYNC_CONFIGURATION = "/log4j2-async.properties";
+
+    /**
+     * Returns a logger for the modes that do not change the log4j configuration.
+     *
+     * @throws IllegalStateException for {@link #ASYNC}, use {@link #open(String)} instead
+     */
+    public Logger getLogger(String name) {
+        switch (this) {
+            case NOOP:
+                return new NoOpLogger(name);
+            case COUNTING:
+                return new CountingLogger(name);
+            case ASYNC:
+                throw new IllegalStateException("ASYNC changes the log4j configuration, use open() and close the scope");
+            default:
+                return LogManager.getLogger(name);
+        }
+    }
+
+    public Logger getLogger(Class<?> clazz) {
+        return getLogger(clazz.getName());
+    }
+
+    /**
+     * Applies this mode and returns its logger in a scope that undoes the change when closed.
+     */
+    public LoggingScope open(String name) {
+        if (this != ASYNC) {
+            return new LoggingScope(getLogger(name), null);
+        }
+
+        URI previous = switchConfiguration(asyncConfiguration());
+        return new LoggingScope(LogManager.getLogger(name), () -> switchConfiguration(previous));
+    }
+
+    public LoggingScope open(Class<?> clazz) {
+        return open(clazz.getName());
+    }
+
+    private static URI asyncConfiguration() {
+        URL configuration = LoggingMode.class.getResource(ASYNC_CONFIGURATION);
+        if (configuration == null) {
+            throw new IllegalStateException(ASYNC_CONFIGURATION + " is not on the classpath");
+        }
+        try {
+            return configuration.toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Points the JVM-wide log4j context at the given configuration, null for the default lookup,
+     * and returns the location that was active before.
+     */
+    private static synchronized URI switchConfiguration(URI location) {
+        LoggerContext context = (LoggerContext) org.apache.logging.log4j.LogManager.getContext(false);
+        URI previous = context.getConfigLocation();
+
+        context.setConfigLocation(location);
+
+        return previous;
+    }
+}
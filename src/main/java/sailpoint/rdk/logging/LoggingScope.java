@@ -0,0 +1,30 @@
+package sailpoint.rdk.logging;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A logger obtained from a {@link LoggingMode}, together with whatever the mode changed to
+ * provide it. Closing the scope undoes that change, e.g. restores the log4j configuration that
+ * was active before {@link LoggingMode#ASYNC} switched it.
+ */
+public class LoggingScope implements AutoCloseable {
+
+    private final Logger logger;
+    private final Runnable restore;
+
+    LoggingScope(Logger logger, Runnable restore) {
+        this.logger = logger;
+        this.restore = restore;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public void close() {
+        if (restore != null) {
+            restore.run();
+        }
+    }
+}
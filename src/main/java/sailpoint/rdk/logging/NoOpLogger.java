@@ -0,0 +1,113 @@
+package sailpoint.rdk.logging;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.Priority;
+
+/**
+ * A logger that discards everything and reports every level as disabled. Evaluating a rule with
+ * this logger bound to {@code log} shows what the rule costs without logging.
+ *
+ * Note that the rule still builds its messages, e.g. {@code "Map log: " + map}, before calling
+ * the logger; only guarded calls ({@code if (log.isDebugEnabled())}) skip that work.
+ */
+public class NoOpLogger extends Logger {
+
+    public NoOpLogger(String name) {
+        super(name);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isFatalEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabledFor(Priority level) {
+        return false;
+    }
+
+    @Override
+    public void trace(Object message) {
+    }
+
+    @Override
+    public void trace(Object message, Throwable t) {
+    }
+
+    @Override
+    public void debug(Object message) {
+    }
+
+    @Override
+    public void debug(Object message, Throwable t) {
+    }
+
+    @Override
+    public void info(Object message) {
+    }
+
+    @Override
+    public void info(Object message, Throwable t) {
+    }
+
+    @Override
+    public void warn(Object message) {
+    }
+
+    @Override
+    public void warn(Object message, Throwable t) {
+    }
+
+    @Override
+    public void error(Object message) {
+    }
+
+    @Override
+    public void error(Object message, Throwable t) {
+    }
+
+    @Override
+    public void fatal(Object message) {
+    }
+
+    @Override
+    public void fatal(Object message, Throwable t) {
+    }
+
+    @Override
+    public void log(Priority priority, Object message) {
+    }
+
+    @Override
+    public void log(Priority priority, Object message, Throwable t) {
+    }
+
+    @Override
+    public void log(String callerFqcn, Priority level, Object message, Throwable t) {
+    }
+}
@@ -0,0 +1,126 @@
+package sailpoint.rdk.logging;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * What logging costs a rule, measured by {@link RuleLogProfiler}.
+ */
+public class RuleLogProfile {
+
+    private final String rule;
+    private final int evaluations;
+    private final long nanosWithoutLogging;
+    private final long nanosWithNoOpLogger;
+    private final long nanosWithLogging;
+    private final long calls;
+    private final long bytes;
+    private final Map<String, Long> callsByLevel;
+    private final long identities;
+    private final long budgetBytes;
+
+    RuleLogProfile(String rule, int evaluations, long nanosWithoutLogging, long nanosWithNoOpLogger, long nanosWithLogging,
+                   long calls, long bytes, Map<String, Long> callsByLevel, long identities, long budgetBytes) {
+        this.rule = rule;
+        this.evaluations = evaluations;
+        this.nanosWithoutLogging = nanosWithoutLogging;
+        this.nanosWithNoOpLogger = nanosWithNoOpLogger;
+        this.nanosWithLogging = nanosWithLogging;
+        this.calls = calls;
+        this.bytes = bytes;
+        this.callsByLevel = Collections.unmodifiableMap(callsByLevel);
+        this.identities = identities;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Time per evaluation of the rule with its log statements stripped from the source.
+     */
+    public double getMillisPerEvaluationWithoutLogging() {
+        return nanosWithoutLogging / 1_000_000.0 / evaluations;
+    }
+
+    /**
+     * Time per evaluation of the rule as written, with a logger that discards every call.
+     */
+    public double getMillisPerEvaluationWithNoOpLogger() {
+        return nanosWithNoOpLogger / 1_000_000.0 / evaluations;
+    }
+
+    public double getMillisPerEvaluationWithLogging() {
+        return nanosWithLogging / 1_000_000.0 / evaluations;
+    }
+
+    /**
+     * Fraction of the evaluation time spent on logging, between 0 and 1: building the message
+     * strings in the rule plus the work of the logger. Guarded calls count only if the logger has
+     * their level enabled.
+     */
+    public double getLoggingShare() {
+        return share(nanosWithLogging - nanosWithoutLogging);
+    }
+
+    /**
+     * The part of {@link #getLoggingShare()} spent building messages for unguarded calls, which
+     * the rule pays even when the level is disabled.
+     */
+    public double getMessageShare() {
+        return share(nanosWithNoOpLogger - nanosWithoutLogging);
+    }
+
+    private double share(long nanos) {
+        if (nanosWithLogging <= 0) {
+            return 0;
+        }
+        return Math.min(1, Math.max(0, (double) nanos / nanosWithLogging));
+    }
+
+    /**
+     * Calls per evaluation at any level, counted with every level enabled.
+     */
+    public double getCallsPerEvaluation() {
+        return (double) calls / evaluations;
+    }
+
+    public double getBytesPerEvaluation() {
+        return (double) bytes / evaluations;
+    }
+
+    public Map<String, Long> getCallsByLevel() {
+        return callsByLevel;
+    }
+
+    /**
+     * Message bytes the rule would log when evaluated once for each identity in the profiled
+     * population.
+     */
+    public long getProjectedBytes() {
+        return Math.round(getBytesPerEvaluation() * identities);
+    }
+
+    /**
+     * True when the projected volume exceeds the log budget, i.e. the rule would flood the tenant
+     * logs with its logging turned on.
+     */
+    public boolean isFlooding() {
+        return getProjectedBytes() > budgetBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.3f ms/eval with logging, %.3f ms/eval without (%.0f%% logging, %.0f%% building messages), "
+                        + "%.1f calls/eval %s, %.0f bytes/eval, %d bytes for %d identities%s",
+                rule, getMillisPerEvaluationWithLogging(), getMillisPerEvaluationWithoutLogging(), getLoggingShare() * 100,
+                getMessageShare() * 100,
+                getCallsPerEvaluation(), callsByLevel, getBytesPerEvaluation(), getProjectedBytes(), identities,
+                isFlooding() ? " - FLOODS LOGS (budget " + budgetBytes + " bytes)" : "");
+    }
+}
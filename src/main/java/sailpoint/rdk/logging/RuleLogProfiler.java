@@ -0,0 +1,201 @@
+package sailpoint.rdk.logging;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+
+/**
+ * Measures how much of a rule's cost is logging and projects the rule's log volume onto a
+ * tenant-sized population of identities.
+ *
+ * The rule is timed three ways: with its {@code log.*(...)} statements stripped from the source,
+ * as written with a {@link NoOpLogger}, and as written with the logger it normally runs with.
+ * The first is the baseline without any logging. The second adds the message strings the rule
+ * builds for unguarded calls, which are concatenated whether or not the level is enabled. The
+ * third adds the work of the logger itself.
+ *
+ * Call and byte counts come from a separate, untimed pass with a {@link CountingLogger}, so the
+ * counting does not distort the timings.
+ */
+public class RuleLogProfiler {
+
+    private static final Pattern LOG_CALL = Pattern.compile("log\\s*\\.\\s*(trace|debug|info|warn|error|fatal)\\s*\\(");
+
+    /**
+     * Sets the rule's inputs, other than {@code log}, before each evaluation.
+     */
+    public interface Bindings {
+        void bind(Interpreter i) throws EvalError;
+    }
+
+    private int warmup = 50;
+    private int iterations = 500;
+    private long identities = 100_000;
+    private long budgetBytes = 10L * 1024 * 1024;
+
+    public RuleLogProfiler warmup(int warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    public RuleLogProfiler iterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be at least 1");
+        }
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Number of identities the rule runs for in one aggregation, used to project log volume.
+     */
+    public RuleLogProfiler identities(long identities) {
+        this.identities = identities;
+        return this;
+    }
+
+    /**
+     * Log bytes per aggregation above which a rule is flagged as flooding.
+     */
+    public RuleLogProfiler budgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        return this;
+    }
+
+    /**
+     * @param logger the logger the rule normally runs with, e.g. from {@link LoggingMode#LOG4J} or
+     *               {@link LoggingMode#ASYNC}
+     */
+    public RuleLogProfile profile(String rule, String source, Bindings bindings, Logger logger) throws EvalError {
+        if (logger == null) {
+            throw new IllegalArgumentException("A logger to measure is required");
+        }
+
+        String stripped = stripLogCalls(source);
+        NoOpLogger noOp = new NoOpLogger(rule);
+        CountingLogger counting = new CountingLogger(rule);
+
+        // The variants take turns, so JIT warmup and other drift do not favour whichever runs last
+        for (int n = 0; n < warmup; n++) {
+            evaluate(stripped, bindings, noOp);
+            evaluate(source, bindings, noOp);
+            evaluate(source, bindings, logger);
+        }
+
+        long withoutLogging = 0;
+        long withNoOpLogger = 0;
+        long withLogging = 0;
+        for (int n = 0; n < iterations; n++) {
+            withoutLogging += evaluate(stripped, bindings, noOp);
+            withNoOpLogger += evaluate(source, bindings, noOp);
+            withLogging += evaluate(source, bindings, logger);
+        }
+
+        for (int n = 0; n < iterations; n++) {
+            evaluate(source, bindings, counting);
+        }
+
+        return new RuleLogProfile(rule, iterations, withoutLogging, withNoOpLogger, withLogging, counting.getCalls(),
+                counting.getBytes(), counting.getCallsByLevel(), identities, budgetBytes);
+    }
+
+    /**
+     * Replaces every {@code log.<level>(...);} statement in a rule's source with an empty
+     * statement, leaving string literals, comments and level checks such as
+     * {@code log.isDebugEnabled()} alone. A call that is not a statement of its own is kept.
+     */
+    public static String stripLogCalls(String source) {
+        StringBuilder sb = new StringBuilder(source.length());
+        Matcher matcher = LOG_CALL.matcher(source);
+        int i = 0;
+
+        while (i < source.length()) {
+            int skipped = skipLiteral(source, i);
+            if (skipped > i) {
+                sb.append(source, i, skipped);
+                i = skipped;
+                continue;
+            }
+
+            boolean boundary = i == 0 || !(Character.isJavaIdentifierPart(source.charAt(i - 1)) || source.charAt(i - 1) == '.');
+            if (boundary && matcher.region(i, source.length()).lookingAt()) {
+                int end = statementEnd(source, matcher.end());
+                if (end > 0) {
+                    sb.append(';');
+                    i = end;
+                    continue;
+                }
+            }
+
+            sb.append(source.charAt(i++));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * The index after the string, character literal or comment starting at {@code i}, or
+     * {@code i} if there is none.
+     */
+    private static int skipLiteral(String source, int i) {
+        char c = source.charAt(i);
+
+        if (c == '"' || c == '\'') {
+            int j = i + 1;
+            while (j < source.length() && source.charAt(j) != c) {
+                j += source.charAt(j) == '\\' ? 2 : 1;
+            }
+            return Math.min(j + 1, source.length());
+        }
+        if (source.startsWith("//", i)) {
+            int end = source.indexOf('\n', i);
+            return end < 0 ? source.length() : end;
+        }
+        if (source.startsWith("/*", i)) {
+            int end = source.indexOf("*/", i + 2);
+            return end < 0 ? source.length() : end + 2;
+        }
+        return i;
+    }
+
+    /**
+     * The index after the {@code ;} closing a call whose argument list starts at {@code i}, or -1
+     * if the call is not followed by one.
+     */
+    private static int statementEnd(String source, int i) {
+        int depth = 1;
+
+        while (i < source.length() && depth > 0) {
+            int skipped = skipLiteral(source, i);
+            if (skipped > i) {
+                i = skipped;
+                continue;
+            }
+            char c = source.charAt(i++);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+        }
+
+        while (i < source.length() && Character.isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return depth == 0 && i < source.length() && source.charAt(i) == ';' ? i + 1 : -1;
+    }
+
+    private static long evaluate(String source, Bindings bindings, Logger log) throws EvalError {
+        Interpreter i = new Interpreter();
+        bindings.bind(i);
+        i.set("log", log);
+
+        long start = System.nanoTime();
+        i.eval(source);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,59 @@
+package sailpoint.rdk.pipeline;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link RulePipeline} run: the per-stage statistics and, when the records were
+ * collected rather than streamed to a sink, the finished records in input order.
+ */
+public class PipelineReport {
+
+    private final List<StageStats> stages;
+    private final List<Map<String, Object>> results;
+
+    PipelineReport(List<StageStats> stages, List<Map<String, Object>> results) {
+        this.stages = Collections.unmodifiableList(stages);
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    public List<StageStats> getStages() {
+        return stages;
+    }
+
+    public List<Map<String, Object>> getResults() {
+        return results;
+    }
+
+    /**
+     * The stage with the lowest capacity, i.e. the rule that limits the throughput of the whole
+     * pipeline.
+     */
+    public StageStats getBottleneck() {
+        StageStats bottleneck = null;
+
+        for (StageStats stage : stages) {
+            if (stage.getRecords() == 0) {
+                continue;
+            }
+            if (bottleneck == null || stage.getCapacityPerSecond() < bottleneck.getCapacityPerSecond()) {
+                bottleneck = stage;
+            }
+        }
+
+        return bottleneck;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        StageStats bottleneck = getBottleneck();
+
+        for (StageStats stage : stages) {
+            sb.append(stage == bottleneck ? "* " : "  ").append(stage).append(System.lineSeparator());
+        }
+
+        return sb.toString();
+    }
+}
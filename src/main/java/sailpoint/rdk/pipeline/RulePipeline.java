@@ -0,0 +1,248 @@
+package sailpoint.rdk.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+
+import bsh.EvalError;
+import sailpoint.rdk.logging.CountingLogger;
+import sailpoint.rdk.logging.LoggingScope;
+
+/**
+ * Runs records through an ordered chain of rules, the way an identity passes through a BuildMap
+ * rule, attribute transforms and generators in a tenant.
+ *
+ * Every stage has its own worker threads and stages are connected by bounded queues, so a slow
+ * stage applies backpressure to the ones before it instead of buffering the whole input. Each
+ * record is a {@code Map} that the stages read their bindings from and write their results to.
+ */
+public class RulePipeline {
+
+    private static final Envelope END = new Envelope(-1, null);
+
+    private final List<RuleStage> stages = new ArrayList<>();
+    private final int queueCapacity;
+
+    public RulePipeline() {
+        this(64);
+    }
+
+    public RulePipeline(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    public RulePipeline stage(RuleStage stage) {
+        stages.add(stage);
+        return this;
+    }
+
+    /**
+     * Runs all records through the pipeline. The finished records are available from the report,
+     * in input order.
+     */
+    public PipelineReport run(Iterable<Map<String, Object>> records) throws EvalError, InterruptedException {
+        List<Envelope> finished = Collections.synchronizedList(new ArrayList<>());
+
+        List<StageStats> stats = execute(records, finished::add);
+
+        List<Map<String, Object>> results = new ArrayList<>(finished.size());
+        finished.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        for (Envelope envelope : finished) {
+            results.add(envelope.record);
+        }
+        return new PipelineReport(stats, results);
+    }
+
+    /**
+     * Streams all records through the pipeline, handing each finished record to the sink as soon
+     * as the last stage completes it. With more than one worker on a stage, records may reach the
+     * sink out of input order. The sink is called from worker threads.
+     */
+    public PipelineReport run(Iterable<Map<String, Object>> records, Consumer<Map<String, Object>> sink)
+            throws EvalError, InterruptedException {
+        List<StageStats> stats = execute(records, envelope -> sink.accept(envelope.record));
+        return new PipelineReport(stats, Collections.emptyList());
+    }
+
+    private List<StageStats> execute(Iterable<Map<String, Object>> records, Consumer<Envelope> sink)
+            throws EvalError, InterruptedException {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Pipeline has no stages");
+        }
+
+        // Scopes are closed in reverse, so stacked configuration changes unwind in order
+        Deque<LoggingScope> scopes = new ArrayDeque<>();
+        try {
+            List<Logger> loggers = new ArrayList<>();
+            for (RuleStage stage : stages) {
+                if (stage.getLogging() == null) {
+                    loggers.add(null);
+                } else {
+                    LoggingScope scope = stage.getLogging().open(stage.getName());
+                    scopes.push(scope);
+                    loggers.add(scope.getLogger());
+                }
+            }
+
+            return execute(records, sink, loggers);
+        } finally {
+            while (!scopes.isEmpty()) {
+                scopes.pop().close();
+            }
+        }
+    }
+
+    private List<StageStats> execute(Iterable<Map<String, Object>> records, Consumer<Envelope> sink, List<Logger> loggers)
+            throws EvalError, InterruptedException {
+        List<BlockingQueue<Envelope>> queues = new ArrayList<>();
+        for (int s = 0; s < stages.size(); s++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        List<StageStats> stats = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int s = 0; s < stages.size(); s++) {
+            RuleStage stage = stages.get(s);
+            Logger log = loggers.get(s);
+            StageStats stageStats = new StageStats(stage.getName(), stage.getParallelism());
+            stats.add(stageStats);
+
+            BlockingQueue<Envelope> in = queues.get(s);
+            BlockingQueue<Envelope> out = s + 1 < stages.size() ? queues.get(s + 1) : null;
+            int downstreamWorkers = out == null ? 0 : stages.get(s + 1).getParallelism();
+            AtomicInteger running = new AtomicInteger(stage.getParallelism());
+
+            for (int w = 0; w < stage.getParallelism(); w++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        work(stage, log, stageStats, in, out, sink);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        workers.forEach(Thread::interrupt);
+                    } finally {
+                        if (running.decrementAndGet() == 0 && out != null) {
+                            try {
+                                for (int d = 0; d < downstreamWorkers; d++) {
+                                    feed(out, END, failure);
+                                }
+                            } catch (InterruptedException e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                    }
+                }, "rule-pipeline-" + stage.getName() + "-" + w);
+                worker.setDaemon(true);
+                workers.add(worker);
+            }
+        }
+
+        workers.forEach(Thread::start);
+
+        BlockingQueue<Envelope> head = queues.get(0);
+        try {
+            long sequence = 0;
+            for (Map<String, Object> record : records) {
+                if (!feed(head, new Envelope(sequence++, new HashMap<>(record)), failure)) {
+                    break;
+                }
+            }
+            for (int w = 0; w < stages.get(0).getParallelism(); w++) {
+                feed(head, END, failure);
+            }
+        } catch (Throwable t) {
+            // No END markers follow, so the workers have to be stopped before joining them
+            failure.compareAndSet(null, t);
+            workers.forEach(Thread::interrupt);
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int s = 0; s < stages.size(); s++) {
+            if (loggers.get(s) instanceof CountingLogger) {
+                CountingLogger counting = (CountingLogger) loggers.get(s);
+                stats.get(s).logged(counting.getCalls(), counting.getBytes());
+            }
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof EvalError) {
+            throw (EvalError) t;
+        } else if (t instanceof InterruptedException) {
+            throw (InterruptedException) t;
+        } else if (t != null) {
+            throw new IllegalStateException("Rule pipeline failed", t);
+        }
+
+        return stats;
+    }
+
+    /**
+     * Puts an envelope on a queue, giving up once a worker has failed so a full queue whose
+     * consumers are gone cannot block the caller forever.
+     */
+    private static boolean feed(BlockingQueue<Envelope> queue, Envelope envelope, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        while (failure.get() == null) {
+            if (queue.offer(envelope, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void work(RuleStage stage, Logger log, StageStats stats, BlockingQueue<Envelope> in, BlockingQueue<Envelope> out,
+                      Consumer<Envelope> sink) throws EvalError, InterruptedException {
+        while (true) {
+            long waitStart = System.nanoTime();
+            Envelope envelope = in.take();
+            long evalStart = System.nanoTime();
+            stats.idle(evalStart - waitStart);
+
+            if (envelope == END) {
+                return;
+            }
+
+            stats.start(evalStart);
+            stage.evaluate(envelope.record, log);
+            long evalEnd = System.nanoTime();
+            stats.record(evalEnd - evalStart);
+
+            if (out != null) {
+                out.put(envelope);
+                stats.blocked(System.nanoTime() - evalEnd);
+            } else {
+                sink.accept(envelope);
+            }
+            stats.end(System.nanoTime());
+        }
+    }
+
+    private static class Envelope {
+        final long sequence;
+        final Map<String, Object> record;
+
+        Envelope(long sequence, Map<String, Object> record) {
+            this.sequence = sequence;
+            this.record = record;
+        }
+    }
+}
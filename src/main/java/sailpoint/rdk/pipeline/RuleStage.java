@@ -0,0 +1,132 @@
+package sailpoint.rdk.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.rdk.logging.LoggingMode;
+import sailpoint.rdk.utils.RuleXmlUtils;
+
+/**
+ * A single step of a {@link RulePipeline}. A stage wraps one rule file and describes how the
+ * record flowing through the pipeline is turned into interpreter bindings, and where the rule's
+ * return value is written back into the record.
+ */
+public class RuleStage {
+
+    private final String name;
+    private final String source;
+
+    private final Map<String, Object> constants = new LinkedHashMap<>();
+    private final Map<String, Function<Map<String, Object>, Object>> bindings = new LinkedHashMap<>();
+
+    private String output;
+    private int parallelism = 1;
+    private LoggingMode logging;
+
+    public RuleStage(String name, String ruleFilePath) {
+        this.name = name;
+        this.source = RuleXmlUtils.readRuleSourceFromFilePath(ruleFilePath);
+
+        if (this.source == null) {
+            throw new IllegalArgumentException("No rule source found in " + ruleFilePath);
+        }
+    }
+
+    /**
+     * Sets a variable that is the same for every record, e.g. {@code log}, {@code idn} or rule
+     * configuration such as {@code patterns}.
+     */
+    public RuleStage set(String variable, Object value) {
+        constants.put(variable, value);
+        return this;
+    }
+
+    /**
+     * Sets a variable from the current record before each evaluation.
+     */
+    public RuleStage bind(String variable, Function<Map<String, Object>, Object> binding) {
+        bindings.put(variable, binding);
+        return this;
+    }
+
+    /**
+     * Shorthand for binding a variable to a record field of the same or a different name.
+     */
+    public RuleStage bind(String variable, String recordKey) {
+        return bind(variable, record -> record.get(recordKey));
+    }
+
+    /**
+     * Writes the rule result to the given record key. When no output is set and the rule returns
+     * a {@link Map} (e.g. a BuildMap rule), its entries are merged into the record instead.
+     */
+    public RuleStage output(String recordKey) {
+        this.output = recordKey;
+        return this;
+    }
+
+    /**
+     * Number of worker threads evaluating this stage.
+     */
+    public RuleStage parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Binds {@code log} to a logger of the given mode for the duration of each pipeline run,
+     * overriding a {@code log} set as a constant. With {@link LoggingMode#COUNTING} the stage's
+     * log volume is added to its {@link StageStats}.
+     */
+    public RuleStage logging(LoggingMode logging) {
+        this.logging = logging;
+        return this;
+    }
+
+    public LoggingMode getLogging() {
+        return logging;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Evaluates the rule for one record in a fresh interpreter, so variables and methods the rule
+     * declares, or constants it reassigns, do not carry over to the next record.
+     */
+    @SuppressWarnings("unchecked")
+    void evaluate(Map<String, Object> record, Logger log) throws EvalError {
+        Interpreter i = new Interpreter();
+
+        for (Map.Entry<String, Object> constant : constants.entrySet()) {
+            i.set(constant.getKey(), constant.getValue());
+        }
+        if (log != null) {
+            i.set("log", log);
+        }
+        for (Map.Entry<String, Function<Map<String, Object>, Object>> binding : bindings.entrySet()) {
+            i.set(binding.getKey(), binding.getValue().apply(record));
+        }
+
+        Object result = i.eval(source);
+
+        if (output != null) {
+            record.put(output, result);
+        } else if (result instanceof Map) {
+            record.putAll((Map<String, Object>) result);
+        }
+    }
+}
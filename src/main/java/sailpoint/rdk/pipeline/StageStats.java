@@ -0,0 +1,147 @@
+package sailpoint.rdk.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-stage counters collected while a {@link RulePipeline} runs.
+ *
+ * Busy time is time spent inside the rule. Blocked time is time spent waiting for the next
+ * stage to accept a record (backpressure), idle time is time spent waiting for input. A stage
+ * with high busy time and low idle time while its neighbours sit idle is the bottleneck.
+ */
+public class StageStats {
+
+    private final String name;
+    private final int parallelism;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong idleNanos = new AtomicLong();
+    private final AtomicLong logCalls = new AtomicLong();
+    private final AtomicLong logBytes = new AtomicLong();
+
+    // System.nanoTime() has an arbitrary origin, so any value including 0 may be a real reading
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final AtomicLong startNanos = new AtomicLong(UNSET);
+    private final AtomicLong endNanos = new AtomicLong(UNSET);
+
+    StageStats(String name, int parallelism) {
+        this.name = name;
+        this.parallelism = parallelism;
+    }
+
+    void start(long nanos) {
+        startNanos.compareAndSet(UNSET, nanos);
+    }
+
+    void end(long nanos) {
+        endNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void record(long busy) {
+        records.incrementAndGet();
+        busyNanos.addAndGet(busy);
+    }
+
+    void blocked(long nanos) {
+        blockedNanos.addAndGet(nanos);
+    }
+
+    void idle(long nanos) {
+        idleNanos.addAndGet(nanos);
+    }
+
+    void logged(long calls, long bytes) {
+        logCalls.addAndGet(calls);
+        logBytes.addAndGet(bytes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getRecords() {
+        return records.get();
+    }
+
+    public long getBusyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+    }
+
+    public long getBlockedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+    }
+
+    public long getIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(idleNanos.get());
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+    }
+
+    /**
+     * Busy time per record on a single worker, i.e. the cost of one rule evaluation.
+     */
+    public double getMillisPerRecord() {
+        long count = records.get();
+        return count == 0 ? 0 : busyNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Records per second this stage can sustain with its configured parallelism, based on busy
+     * time only. The lowest value across the pipeline bounds the throughput of the whole profile.
+     */
+    public double getCapacityPerSecond() {
+        long busy = busyNanos.get();
+        return busy == 0 ? 0 : records.get() * parallelism * 1_000_000_000.0 / busy;
+    }
+
+    /**
+     * Records per second actually observed between the stage's first and last record.
+     */
+    public double getThroughputPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed <= 0 ? 0 : records.get() * 1_000_000_000.0 / elapsed;
+    }
+
+    private long getElapsedNanos() {
+        long start = startNanos.get();
+        long end = endNanos.get();
+        return start == UNSET || end == UNSET ? 0 : Math.max(0, end - start);
+    }
+
+    /**
+     * Log calls made by the stage's rule, only counted when the stage uses
+     * {@link sailpoint.rdk.logging.LoggingMode#COUNTING}.
+     */
+    public long getLogCalls() {
+        return logCalls.get();
+    }
+
+    /**
+     * Bytes of log messages formatted by the stage's rule, see {@link #getLogCalls()}.
+     */
+    public long getLogBytes() {
+        return logBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format("%s [x%d]: %d records, %.0f/s observed, %.0f/s capacity, %.3f ms/record, busy %d ms, blocked %d ms, idle %d ms",
+                name, parallelism, getRecords(), getThroughputPerSecond(), getCapacityPerSecond(), getMillisPerRecord(),
+                getBusyMillis(), getBlockedMillis(), getIdleMillis());
+
+        if (getLogCalls() > 0) {
+            result += String.format(", %d log calls, %d log bytes", getLogCalls(), getLogBytes());
+        }
+        return result;
+    }
+}
@@ -16,27 +16,37 @@ import org.xml.sax.SAXException;
 public class RuleXmlUtils {
 
 
-    public static String readRuleSourceFromFilePath(String filePath) {
+    /**
+     * Creates a builder configured for rule XML, i.e. without loading the sailpoint.dtd that the
+     * rule files reference. Builders are not thread safe, use one per thread.
+     */
+    public static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
 
         // Instantiate the Factory
         DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        String source = null;
 
-        try {
+        dbf.setValidating(false);
+        dbf.setNamespaceAware(true);
+        dbf.setFeature("http://xml.org/sax/features/namespaces", false);
+        dbf.setFeature("http://xml.org/sax/features/validation", false);
+        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+
+        // optional, but recommended
+        // process XML securely, avoid attacks like XML External Entities (XXE)
+        // dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+
+        return dbf.newDocumentBuilder();
+    }
 
-            dbf.setValidating(false);
-            dbf.setNamespaceAware(true);
-            dbf.setFeature("http://xml.org/sax/features/namespaces", false);
-            dbf.setFeature("http://xml.org/sax/features/validation", false);
-            dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-            dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+    public static String readRuleSourceFromFilePath(String filePath) {
 
-            // optional, but recommended
-            // process XML securely, avoid attacks like XML External Entities (XXE)
-            // dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        String source = null;
+
+        try {
 
             // parse XML file
-            DocumentBuilder db = dbf.newDocumentBuilder();
+            DocumentBuilder db = newDocumentBuilder();
 
             Document doc = db.parse(new File(filePath));
 
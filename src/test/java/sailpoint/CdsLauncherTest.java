@@ -0,0 +1,149 @@
+package sailpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sailpoint.rdk.cds.CdsLauncher;
+import sailpoint.rdk.cds.RuleHarness;
+
+public class CdsLauncherTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testClassDirectoriesAreJarred() throws IOException {
+        Path classes = classesDirectory();
+        Path library = write(temp.resolve("library.jar"), "not really a jar");
+        Path cds = temp.resolve("cds");
+
+        CdsLauncher launcher = new CdsLauncher(cds, path(classes, library, temp.resolve("missing.jar")));
+
+        // Nothing is packaged until the classpath is needed
+        assertFalse(Files.exists(cds));
+
+        List<String> classpath = launcher.getClasspath();
+
+        assertEquals(2, classpath.size());
+        assertTrue(classpath.get(0).startsWith(cds.toAbsolutePath().toString()));
+        assertEquals(library.toAbsolutePath().toString(), classpath.get(1));
+
+        try (JarFile jar = new JarFile(classpath.get(0))) {
+            assertNotNull(jar.getEntry("sailpoint/Example.class"));
+            assertNotNull(jar.getEntry("log4j2.properties"));
+        }
+    }
+
+    @Test
+    public void testJarIsOnlyRepackagedWhenDirectoryChanges() throws IOException {
+        Path classes = classesDirectory();
+        Path cds = temp.resolve("cds");
+
+        File jar = new File(new CdsLauncher(cds, path(classes)).getClasspath().get(0));
+        long packaged = System.currentTimeMillis() - 60_000;
+        setLastModified(classes, packaged - 60_000);
+        assertTrue(jar.setLastModified(packaged));
+
+        new CdsLauncher(cds, path(classes)).getClasspath();
+        assertEquals(packaged, jar.lastModified());
+
+        assertTrue(classes.resolve("log4j2.properties").toFile().setLastModified(packaged + 30_000));
+
+        new CdsLauncher(cds, path(classes)).getClasspath();
+        assertTrue(jar.lastModified() > packaged);
+    }
+
+    @Test
+    public void testArchiveFreshness() throws IOException {
+        Path library = write(temp.resolve("library.jar"), "not really a jar");
+        CdsLauncher launcher = new CdsLauncher(temp.resolve("cds"), path(library));
+
+        assertFalse(launcher.isArchiveFresh());
+
+        Files.createDirectories(launcher.getArchive().getParent());
+        write(launcher.getArchive(), "archive");
+        long dumped = System.currentTimeMillis() - 60_000;
+        assertTrue(launcher.getArchive().toFile().setLastModified(dumped));
+
+        assertTrue(library.toFile().setLastModified(dumped - 60_000));
+        assertTrue(launcher.isArchiveFresh());
+
+        assertTrue(library.toFile().setLastModified(dumped + 30_000));
+        assertFalse(launcher.isArchiveFresh());
+    }
+
+    @Test
+    public void testMedian() {
+        assertEquals(3, CdsLauncher.median(Arrays.asList(5L, 1L, 3L)));
+        assertEquals(4, CdsLauncher.median(Arrays.asList(4L, 1L, 9L, 2L)));
+        assertEquals(7, CdsLauncher.median(Collections.singletonList(7L)));
+        assertThrows(IllegalArgumentException.class, () -> CdsLauncher.median(Collections.emptyList()));
+    }
+
+    @Test
+    public void testMeasureRejectsZeroRuns() {
+        CdsLauncher launcher = new CdsLauncher(temp.resolve("cds"), "");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> launcher.measure(RuleHarness.class.getName(), Collections.emptyList(), 0));
+    }
+
+    @Test
+    public void testReadClassList() throws IOException {
+        Path classList = write(temp.resolve("classes.lst"), "# NOTE: Do not modify this file.\n"
+                + "java/lang/Object id: 0\n"
+                + "bsh/Interpreter\n"
+                + "@lambda-proxy java/lang/Runnable run ()V\n"
+                + "\n"
+                + "com/google/gson/Gson source: jrt:/gson\n");
+
+        assertEquals(Arrays.asList("java.lang.Object", "bsh.Interpreter", "com.google.gson.Gson"),
+                RuleHarness.readClassList(classList));
+    }
+
+    private Path classesDirectory() throws IOException {
+        Path classes = Files.createDirectories(temp.resolve("classes"));
+        Files.createDirectories(classes.resolve("sailpoint"));
+        write(classes.resolve("sailpoint/Example.class"), "bytes");
+        write(classes.resolve("log4j2.properties"), "status = warn");
+        return classes;
+    }
+
+    private static void setLastModified(Path directory, long time) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.forEach(file -> assertTrue(file.toFile().setLastModified(time)));
+        }
+    }
+
+    private static String path(Path... entries) {
+        StringBuilder sb = new StringBuilder();
+        for (Path entry : entries) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparator);
+            }
+            sb.append(entry);
+        }
+        return sb.toString();
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
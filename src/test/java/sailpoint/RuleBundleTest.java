@@ -0,0 +1,182 @@
+package sailpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.rdk.bundle.RuleBundle;
+import sailpoint.rdk.bundle.RuleBundleWriter;
+import sailpoint.rdk.bundle.RuleInfo;
+import sailpoint.rdk.utils.RuleXmlUtils;
+
+public class RuleBundleTest {
+    Logger log = LogManager.getLogger(RuleBundleTest.class);
+
+    private static final String RULES_DIRECTORY = "src/main/resources/rules";
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testBundleMatchesRuleFiles() throws IOException {
+        Path archive = temp.resolve("rules.bundle");
+
+        RuleBundleWriter writer = new RuleBundleWriter();
+        int count = writer.write(Paths.get(RULES_DIRECTORY), archive);
+
+        File[] files = new File(RULES_DIRECTORY).listFiles((dir, name) -> name.endsWith(".xml"));
+        assertEquals(files.length, count);
+
+        try (RuleBundle bundle = RuleBundle.open(archive)) {
+            assertEquals(count, bundle.getRules().size());
+
+            for (File file : files) {
+                RuleInfo info = bundle.getRuleByFileName(file.getName());
+                assertEquals(RuleXmlUtils.readRuleSourceFromFilePath(file.getPath()), bundle.getSource(info));
+            }
+
+            // Both example rules are named "Example Rule"
+            List<RuleInfo> examples = bundle.getRule("Example Rule");
+            assertEquals(2, examples.size());
+            assertEquals("BeforeProvisioning", examples.get(0).getType());
+            assertEquals("IdentityAttribute", examples.get(1).getType());
+
+            RuleInfo joinAttributes = bundle.getRule("JoinAttributes").get(0);
+            assertEquals("BuildMap", joinAttributes.getType());
+            assertEquals("Object", joinAttributes.getReturnType());
+            assertEquals(Arrays.asList("cols", "record"), joinAttributes.getArguments());
+
+            // The Returns argument is not an input
+            RuleInfo flatten = bundle.getRuleByFileName("Rule - Generic - FlattenMultiValuedAttribute.xml");
+            assertEquals(Arrays.asList("applicationName", "nativeIdentity", "attribute", "delimiter", "debugError"),
+                    flatten.getArguments());
+
+            assertTrue(bundle.getRule("No Such Rule").isEmpty());
+            assertNull(bundle.getSourceByFileName("No Such Rule.xml"));
+        }
+
+        writer.getProblems().forEach(log::debug);
+    }
+
+    @Test
+    public void testBundledSourceEvaluates() throws IOException, EvalError {
+        Path archive = temp.resolve("rules.bundle");
+        new RuleBundleWriter().write(Paths.get(RULES_DIRECTORY), archive);
+
+        try (RuleBundle bundle = RuleBundle.open(archive)) {
+            Interpreter i = new Interpreter();
+
+            i.set("patterns", "\\b(Mc|Mac)");
+            char[] delimiters = {'-', ' ', '\''};
+            i.set("delimiters", delimiters);
+            i.set("replacements", "{}");
+            i.set("input", "JOHN DOE");
+
+            assertEquals("John Doe", i.eval(bundle.getSource(bundle.getRule("Name Normalizer").get(0))));
+        }
+    }
+
+    @Test
+    public void testInvalidRulesAreSkipped() throws IOException {
+        Path rules = Files.createDirectory(temp.resolve("rules"));
+        write(rules.resolve("valid.xml"), "<Rule name=\"Valid\" type=\"Generic\"><Source>return 1;</Source></Rule>");
+        write(rules.resolve("z-duplicate.xml"), "<Rule name=\"Valid\"><Source>return 2;</Source></Rule>");
+        write(rules.resolve("no-name.xml"), "<Rule><Source>return 3;</Source></Rule>");
+        write(rules.resolve("no-source.xml"), "<Rule name=\"Empty\"></Rule>");
+        write(rules.resolve("broken.xml"), "<Rule name=\"Broken\">");
+
+        Path archive = temp.resolve("rules.bundle");
+        RuleBundleWriter writer = new RuleBundleWriter();
+
+        // Malformed files are only reported as problems, not printed by the parser
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(stderr, true, "UTF-8"));
+        try {
+            assertEquals(2, writer.write(rules, archive));
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals("", stderr.toString("UTF-8"));
+        assertTrue(writer.getProblems().stream().anyMatch(problem -> problem.startsWith("valid.xml: Rule has no Signature")));
+        assertEquals(3, writer.getProblems().stream().filter(problem -> problem.endsWith("skipped")).count());
+
+        try (RuleBundle bundle = RuleBundle.open(archive)) {
+            // Rules of the same name from different files are all kept
+            assertEquals(2, bundle.getRule("Valid").size());
+            assertEquals("return 1;", bundle.getSourceByFileName("valid.xml"));
+            assertEquals("return 2;", bundle.getSourceByFileName("z-duplicate.xml"));
+            assertTrue(bundle.getRule("Empty").isEmpty());
+        }
+    }
+
+    @Test
+    public void testLoadLibraryFromBundle() throws IOException {
+        // A library of a few hundred rules, copies of the example rules under unique names
+        Path rules = Files.createDirectory(temp.resolve("library"));
+        File[] files = new File(RULES_DIRECTORY).listFiles((dir, name) -> name.endsWith(".xml"));
+        int copies = 300;
+
+        for (int c = 0; c < copies; c++) {
+            File file = files[c % files.length];
+            String xml = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)
+                    .replaceFirst("name=\"([^\"]*)\"", "name=\"$1 " + c + "\"");
+            write(rules.resolve(c + " - " + file.getName()), xml);
+        }
+
+        Path archive = temp.resolve("library.bundle");
+        assertEquals(copies, new RuleBundleWriter().write(rules, archive));
+
+        long start = System.nanoTime();
+        try (Stream<Path> walk = Files.list(rules)) {
+            walk.forEach(file -> RuleXmlUtils.readRuleSourceFromFilePath(file.toString()));
+        }
+        long parseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        long openMicros;
+        try (RuleBundle bundle = RuleBundle.open(archive)) {
+            openMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            for (RuleInfo info : bundle.getRules()) {
+                bundle.getSource(info);
+            }
+        }
+        long bundleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info(String.format("Loading %d rules: %d ms parsing each file with RuleXmlUtils, "
+                + "%d us to open the bundle, %d ms to open it and decode every source", copies, parseMillis, openMicros, bundleMillis));
+    }
+
+    @Test
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Path file = temp.resolve("rule.xml");
+        write(file, "<Rule name=\"Valid\"><Source>return 1;</Source></Rule>");
+
+        assertThrows(IOException.class, () -> RuleBundle.open(file));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package sailpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.rdk.bundle.RuleBundleWriter;
+import sailpoint.rdk.cds.RuleHarness;
+import sailpoint.rdk.cds.TrainingInputs;
+import sailpoint.rdk.logging.LoggingMode;
+
+public class RuleHarnessTest {
+
+    private static final String RULES_DIRECTORY = "src/main/resources/rules";
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testHarnessEvaluatesRulesDirectory() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int evaluated = RuleHarness.run(Paths.get(RULES_DIRECTORY), new PrintStream(out, true, "UTF-8"));
+
+        // Every example rule runs to completion with the training inputs
+        assertEquals(ruleFiles(), evaluated);
+        assertEquals(RuleHarness.FIRST_RESULT, out.toString("UTF-8").trim());
+    }
+
+    @Test
+    public void testMarkerOnlyAfterSuccessfulRule() throws IOException {
+        Path rules = Files.createDirectory(temp.resolve("rules"));
+        Files.write(rules.resolve("a.xml"), "<Rule name=\"Fails\"><Source>throw new RuntimeException(\"fail\");</Source></Rule>"
+                .getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, RuleHarness.run(rules, new PrintStream(out, true, "UTF-8")));
+        assertEquals("", out.toString("UTF-8"));
+
+        Files.write(rules.resolve("b.xml"), "<Rule name=\"Works\"><Source>return 1;</Source></Rule>"
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1, RuleHarness.run(rules, new PrintStream(out, true, "UTF-8")));
+        assertEquals(RuleHarness.FIRST_RESULT, out.toString("UTF-8").trim());
+    }
+
+    @Test
+    public void testHarnessWithNoOpLogging() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int evaluated = RuleHarness.run(Paths.get(RULES_DIRECTORY), new PrintStream(out, true, "UTF-8"), LoggingMode.NOOP);
+
+        assertEquals(ruleFiles(), evaluated);
+    }
+
+    @Test
+    public void testHarnessEvaluatesRuleBundle() throws IOException {
+        Path archive = temp.resolve("rules.bundle");
+        new RuleBundleWriter().write(Paths.get(RULES_DIRECTORY), archive);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int evaluated = RuleHarness.run(archive, new PrintStream(out, true, "UTF-8"));
+
+        // Same rules as the directory, including both rules named "Example Rule"
+        assertEquals(ruleFiles(), evaluated);
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).contains(RuleHarness.FIRST_RESULT));
+    }
+
+    @Test
+    public void testTrainingIdnKeepsObjectSemantics() throws EvalError {
+        Interpreter i = new Interpreter();
+        TrainingInputs.bind(i);
+        Object idn = i.get("idn");
+
+        assertTrue(idn.equals(idn));
+        assertFalse(idn.equals(new Object()));
+        assertEquals(System.identityHashCode(idn), idn.hashCode());
+        assertTrue(new HashSet<>(Collections.singleton(idn)).contains(idn));
+    }
+
+    private static int ruleFiles() {
+        return new File(RULES_DIRECTORY).list((dir, name) -> name.endsWith(".xml")).length;
+    }
+}
@@ -0,0 +1,170 @@
+package sailpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.junit.jupiter.api.Test;
+
+import bsh.EvalError;
+import bsh.Interpreter;
+import sailpoint.object.Application;
+import sailpoint.object.Identity;
+import sailpoint.rdk.logging.CountingLogger;
+import sailpoint.rdk.logging.LoggingMode;
+import sailpoint.rdk.logging.LoggingScope;
+import sailpoint.rdk.logging.RuleLogProfile;
+import sailpoint.rdk.logging.RuleLogProfiler;
+import sailpoint.rdk.utils.RuleXmlUtils;
+import sailpoint.server.IdnRuleUtil;
+import sailpoint.tools.GeneralException;
+
+public class RuleLogProfilerTest {
+    Logger log = LogManager.getLogger(RuleLogProfilerTest.class);
+
+    private static final String BUILD_MAP_FILENAME = "src/main/resources/rules/Rule - BuildMap - JoinAttributes.xml";
+    private static final String USERNAME_FILENAME = "src/main/resources/rules/Rule - AttributeGenerator - UsernameGenerator.xml";
+
+    @Test
+    public void testCountingLoggerRecordsCallsAndBytes() throws EvalError {
+        Interpreter i = new Interpreter();
+
+        List<String> columns = Arrays.asList("access", "permission", "email");
+        List<String> rows = Arrays.asList("admin", "write", "john.doe@sailpoint.com");
+
+        CountingLogger counting = (CountingLogger) LoggingMode.COUNTING.getLogger(JoinAttributesTest.class);
+
+        i.set("log", counting);
+        i.set("cols", columns);
+        i.set("record", rows);
+
+        i.eval(RuleXmlUtils.readRuleSourceFromFilePath(BUILD_MAP_FILENAME));
+
+        assertEquals(1, counting.getCalls());
+        assertEquals(Long.valueOf(1), counting.getCallsByLevel().get("DEBUG"));
+        assertTrue(counting.getBytes() > "Map log: ".length());
+    }
+
+    @Test
+    public void testNoOpLoggerDoesNotChangeResult() throws EvalError, GeneralException {
+        String source = RuleXmlUtils.readRuleSourceFromFilePath(USERNAME_FILENAME);
+
+        Interpreter i = new Interpreter();
+        bindUsernameGenerator(i);
+        i.set("log", LoggingMode.NOOP.getLogger(UsernameGeneratorTest.class));
+
+        assertEquals("kiefer.s", i.eval(source));
+    }
+
+    @Test
+    public void testProfileUsernameGenerator() throws EvalError {
+        String source = RuleXmlUtils.readRuleSourceFromFilePath(USERNAME_FILENAME);
+
+        RuleLogProfile profile = new RuleLogProfiler()
+                .warmup(5)
+                .iterations(20)
+                .identities(1_000_000)
+                .budgetBytes(1024 * 1024)
+                .profile("UsernameGenerator", source, this::bindUsernameGenerator, LoggingMode.LOG4J.getLogger(UsernameGeneratorTest.class));
+
+        log.info(profile);
+
+        // One unique username and one exit message per evaluation
+        assertEquals(2.0, profile.getCallsPerEvaluation());
+        assertTrue(profile.getBytesPerEvaluation() > 0);
+        assertTrue(profile.getLoggingShare() >= 0 && profile.getLoggingShare() <= 1);
+        assertTrue(profile.getMessageShare() >= 0 && profile.getMessageShare() <= 1);
+        assertTrue(profile.isFlooding());
+    }
+
+    @Test
+    public void testProfileWithinBudget() throws EvalError {
+        String source = RuleXmlUtils.readRuleSourceFromFilePath(USERNAME_FILENAME);
+
+        RuleLogProfile profile = new RuleLogProfiler()
+                .warmup(0)
+                .iterations(5)
+                .identities(100)
+                .profile("UsernameGenerator", source, this::bindUsernameGenerator, LoggingMode.LOG4J.getLogger(UsernameGeneratorTest.class));
+
+        assertEquals(2.0, profile.getCallsPerEvaluation());
+        assertFalse(profile.isFlooding());
+    }
+
+    @Test
+    public void testStripLogCalls() throws EvalError, GeneralException {
+        assertEquals("x = 1; ; return x;",
+                RuleLogProfiler.stripLogCalls("x = 1; log.debug(\"x = \" + String.valueOf(x)); return x;"));
+        assertEquals("if (log.isDebugEnabled()) ;",
+                RuleLogProfiler.stripLogCalls("if (log.isDebugEnabled()) log . info ( \"a)\" + ')' );"));
+        assertEquals("s = \"log.debug(s);\"; // log.warn(s);\n;",
+                RuleLogProfiler.stripLogCalls("s = \"log.debug(s);\"; // log.warn(s);\nlog.warn(s);"));
+        assertEquals("catalog.debug(s); r = log.debug(s) + 1;",
+                RuleLogProfiler.stripLogCalls("catalog.debug(s); r = log.debug(s) + 1;"));
+
+        // The stripped rule still evaluates to the same result, without a logger
+        String stripped = RuleLogProfiler.stripLogCalls(RuleXmlUtils.readRuleSourceFromFilePath(USERNAME_FILENAME));
+        assertFalse(stripped.contains("log.debug"));
+
+        Interpreter i = new Interpreter();
+        bindUsernameGenerator(i);
+        assertEquals("kiefer.s", i.eval(stripped));
+    }
+
+    @Test
+    public void testProfileRequiresLogger() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RuleLogProfiler().profile("UsernameGenerator", "return null;", i -> { }, null));
+    }
+
+    @Test
+    public void testAsyncScopeRestoresConfiguration() {
+        LoggerContext context = (LoggerContext) org.apache.logging.log4j.LogManager.getContext(false);
+        URI original = context.getConfigLocation();
+
+        assertThrows(IllegalStateException.class, () -> LoggingMode.ASYNC.getLogger(UsernameGeneratorTest.class));
+
+        try (LoggingScope scope = LoggingMode.ASYNC.open(UsernameGeneratorTest.class)) {
+            assertTrue(context.getConfiguration().getAppenders().get("Async") instanceof AsyncAppender);
+            assertTrue(context.getConfigLocation().toString().endsWith("log4j2-async.properties"));
+
+            scope.getLogger().debug("Logged through the async appender");
+        }
+
+        assertEquals(original, context.getConfigLocation());
+        assertNull(context.getConfiguration().getAppenders().get("Async"));
+    }
+
+    private void bindUsernameGenerator(Interpreter i) throws EvalError {
+        IdnRuleUtil idn = mock();
+        Application application = mock(Application.class);
+        Identity identity = mock(Identity.class);
+
+        try {
+            when(idn.accountExistsByDisplayName(any(), any())).thenReturn(false);
+        } catch (GeneralException e) {
+            throw new IllegalStateException(e);
+        }
+        when(application.getName()).thenReturn("Active Directory [source]");
+        when(identity.getFirstname()).thenReturn("Kiefer");
+        when(identity.getLastname()).thenReturn("Sutherland");
+        when(identity.getStringAttribute("otherName")).thenReturn("");
+
+        i.set("idn", idn);
+        i.set("application", application);
+        i.set("identity", identity);
+    }
+}
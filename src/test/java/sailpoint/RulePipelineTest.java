@@ -0,0 +1,288 @@
+package sailpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bsh.EvalError;
+import sailpoint.object.Application;
+import sailpoint.object.Identity;
+import sailpoint.rdk.logging.LoggingMode;
+import sailpoint.rdk.pipeline.PipelineReport;
+import sailpoint.rdk.pipeline.RulePipeline;
+import sailpoint.rdk.pipeline.RuleStage;
+import sailpoint.rdk.pipeline.StageStats;
+import sailpoint.server.IdnRuleUtil;
+import sailpoint.tools.GeneralException;
+
+public class RulePipelineTest {
+    Logger log = LogManager.getLogger(RulePipelineTest.class);
+
+    private static final String BUILD_MAP_FILENAME = "src/main/resources/rules/Rule - BuildMap - JoinAttributes.xml";
+    private static final String NAME_NORMALIZER_FILENAME = "src/main/resources/rules/Rule - Generic - NameNormalizer.xml";
+    private static final String LCS_FILENAME = "src/main/resources/rules/Rule - IdentityAttribute - Example Rule.xml";
+    private static final String USERNAME_FILENAME = "src/main/resources/rules/Rule - AttributeGenerator - UsernameGenerator.xml";
+
+    @TempDir
+    Path temp;
+
+    private static final List<String> COLUMNS = Arrays.asList("access", "permission", "firstname", "lastname", "startDate", "endDate");
+
+    @Test
+    public void testIdentityProfilePipeline() throws GeneralException, EvalError, InterruptedException {
+        IdnRuleUtil idn = mock();
+        when(idn.accountExistsByDisplayName(any(), any())).thenReturn(false);
+
+        Application application = mock(Application.class);
+        when(application.getName()).thenReturn("Active Directory [source]");
+
+        RulePipeline pipeline = new RulePipeline(4)
+                .stage(new RuleStage("JoinAttributes", BUILD_MAP_FILENAME)
+                        .set("log", log)
+                        .set("cols", COLUMNS)
+                        .bind("record", "row"))
+                .stage(normalizer("firstname"))
+                .stage(normalizer("lastname"))
+                .stage(new RuleStage("LifecycleState", LCS_FILENAME)
+                        .parallelism(2)
+                        .set("log", log)
+                        .set("idn", idn)
+                        .bind("identity", RulePipelineTest::identity)
+                        .output("cloudLifecycleState"))
+                .stage(new RuleStage("UsernameGenerator", USERNAME_FILENAME)
+                        .parallelism(2)
+                        .set("log", log)
+                        .set("idn", idn)
+                        .set("application", application)
+                        .bind("identity", RulePipelineTest::identity)
+                        .output("username"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 50; r++) {
+            rows.add(row("admin", "write", "JOHN", "doe" + r, getDate(-7), getDate(7)));
+        }
+
+        PipelineReport report = pipeline.run(rows);
+
+        assertEquals(50, report.getResults().size());
+        for (int r = 0; r < 50; r++) {
+            Map<String, Object> result = report.getResults().get(r);
+            assertEquals("admin - write", result.get("access"));
+            assertEquals("John", result.get("firstname"));
+            assertEquals("Doe" + r, result.get("lastname"));
+            assertEquals("active", result.get("cloudLifecycleState"));
+            assertEquals("john.doe" + r, result.get("username"));
+        }
+
+        for (StageStats stage : report.getStages()) {
+            assertEquals(50, stage.getRecords());
+        }
+        assertNotNull(report.getBottleneck());
+
+        log.info("Pipeline report:\n" + report);
+    }
+
+    @Test
+    public void testStreamingToSink() throws EvalError, InterruptedException {
+        RulePipeline pipeline = new RulePipeline(1)
+                .stage(normalizer("firstname"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 10; r++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("firstname", "mArTiN o'mAlLeY");
+            rows.add(row);
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        PipelineReport report = pipeline.run(rows, record -> {
+            assertEquals("Martin O'Malley", record.get("firstname"));
+            count.incrementAndGet();
+        });
+
+        assertEquals(10, count.get());
+        assertEquals(0, report.getResults().size());
+    }
+
+    @Test
+    public void testStageFailureStopsPipeline() {
+        RulePipeline pipeline = new RulePipeline(1)
+                .stage(new RuleStage("LifecycleState", LCS_FILENAME)
+                        .bind("identity", record -> null));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 10; r++) {
+            rows.add(new HashMap<>());
+        }
+
+        assertThrows(EvalError.class, () -> pipeline.run(rows));
+    }
+
+    @Test
+    public void testCountingLoggingMode() throws EvalError, InterruptedException {
+        RulePipeline pipeline = new RulePipeline(4)
+                .stage(new RuleStage("JoinAttributes", BUILD_MAP_FILENAME)
+                        .parallelism(2)
+                        .logging(LoggingMode.COUNTING)
+                        .set("cols", COLUMNS)
+                        .bind("record", "row"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 10; r++) {
+            rows.add(row("admin", "write", "JOHN", "doe" + r, getDate(-7), getDate(7)));
+        }
+
+        StageStats stats = pipeline.run(rows).getStages().get(0);
+
+        // One "Map log: " debug call per row
+        assertEquals(10, stats.getLogCalls());
+        assertTrue(stats.getLogBytes() > 10 * "Map log: ".length());
+    }
+
+    @Test
+    public void testSinkErrorStopsPipeline() {
+        RulePipeline pipeline = new RulePipeline(1)
+                .stage(normalizer("firstname"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 20; r++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("firstname", "JOHN");
+            rows.add(row);
+        }
+
+        IllegalStateException e = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(rows, record -> {
+                    throw new AssertionError("sink failed");
+                })));
+        assertTrue(e.getCause() instanceof AssertionError);
+    }
+
+    @Test
+    public void testFailingRecordsStopPipeline() {
+        RulePipeline pipeline = new RulePipeline(1)
+                .stage(normalizer("firstname"))
+                .stage(normalizer("lastname").parallelism(2));
+
+        Iterable<Map<String, Object>> rows = () -> new Iterator<Map<String, Object>>() {
+            int r;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (++r > 5) {
+                    throw new IllegalArgumentException("unreadable row " + r);
+                }
+                Map<String, Object> row = new HashMap<>();
+                row.put("firstname", "JOHN");
+                row.put("lastname", "DOE");
+                return row;
+            }
+        };
+
+        IllegalStateException e = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(rows)));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+
+        // A null record fails the same way instead of leaving the workers waiting for input
+        List<Map<String, Object>> nulls = new ArrayList<>();
+        nulls.add(null);
+        assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(nulls)));
+
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("rule-pipeline-NameNormalizer")) {
+                assertTimeoutPreemptively(Duration.ofSeconds(30), () -> thread.join());
+            }
+        }
+    }
+
+    @Test
+    public void testNoStateLeaksBetweenRecords() throws IOException, EvalError, InterruptedException {
+        Path rule = temp.resolve("Rule - Generic - Counter.xml");
+        Files.write(rule, ("<Rule name=\"Counter\"><Source><![CDATA[\n"
+                + "if (count == void) count = 0;\n"
+                + "count++;\n"
+                + "base = base + 1;\n"
+                + "return count * 100 + base;\n"
+                + "]]></Source></Rule>").getBytes(StandardCharsets.UTF_8));
+
+        RulePipeline pipeline = new RulePipeline(2)
+                .stage(new RuleStage("Counter", rule.toString())
+                        .parallelism(2)
+                        .set("base", 0)
+                        .output("count"));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int r = 0; r < 20; r++) {
+            rows.add(new HashMap<>());
+        }
+
+        for (Map<String, Object> result : pipeline.run(rows).getResults()) {
+            assertEquals(101, result.get("count"));
+        }
+    }
+
+    private RuleStage normalizer(String attribute) {
+        char[] delimiters = {'-', ' ', '\''};
+
+        return new RuleStage("NameNormalizer(" + attribute + ")", NAME_NORMALIZER_FILENAME)
+                .set("patterns", "\\b(Mc|Mac)")
+                .set("delimiters", delimiters)
+                .set("replacements", "{ \"\\\\\\\\b(?:Von)\\\\\\\\b\": \"von\" }")
+                .bind("input", attribute)
+                .output(attribute);
+    }
+
+    private static Identity identity(Map<String, Object> record) {
+        Identity identity = mock(Identity.class);
+        when(identity.getFirstname()).thenReturn((String) record.get("firstname"));
+        when(identity.getLastname()).thenReturn((String) record.get("lastname"));
+        when(identity.getAttribute("startDate")).thenReturn(record.get("startDate"));
+        when(identity.getAttribute("endDate")).thenReturn(record.get("endDate"));
+        when(identity.getStringAttribute("otherName")).thenReturn("");
+        return identity;
+    }
+
+    private static Map<String, Object> row(String... values) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("row", Arrays.asList(values));
+        return row;
+    }
+
+    public String getDate(int numberOfDaysToAdjust) {
+        Calendar c = Calendar.getInstance();
+        c.add(Calendar.DAY_OF_MONTH, numberOfDaysToAdjust);
+
+        return new SimpleDateFormat("yyyy-MM-dd").format(c.getTime());
+    }
+}